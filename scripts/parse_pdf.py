@@ -9,6 +9,7 @@ import json
 from pathlib import Path
 from typing import Dict, Any, List
 import os
+import time
 
 try:
     from paddleocr import PaddleOCR
@@ -63,7 +64,9 @@ def  parse_pdf(pdf_path: str) -> Dict[str, Any]:
         
         # Convert PDF to images
         print(f"Converting PDF to images: {pdf_path}", file=sys.stderr)
+        render_start = time.perf_counter()
         images = convert_from_path(pdf_path)
+        render_seconds = time.perf_counter() - render_start
         
         # Get OCR instance
         ocr_engine = get_ocr_instance()
@@ -71,6 +74,7 @@ def  parse_pdf(pdf_path: str) -> Dict[str, Any]:
         # Process each page
         all_text = []
         page_details = []
+        ocr_seconds = []
         
         for page_num, image in enumerate(images, start=1):
             print(f"Processing page {page_num}/{len(images)}", file=sys.stderr)
@@ -79,7 +83,9 @@ def  parse_pdf(pdf_path: str) -> Dict[str, Any]:
             img_array = np.array(image)
             
             # Perform OCR
+            ocr_start = time.perf_counter()
             ocr_result = ocr_engine.ocr(img_array, cls=True)
+            ocr_seconds.append(time.perf_counter() - ocr_start)
             
             # Extract text from OCR result
             page_text = []
@@ -123,7 +129,12 @@ def  parse_pdf(pdf_path: str) -> Dict[str, Any]:
                 "pages": len(images),
                 "parser": "PaddleOCR",
                 "total_text_blocks": sum(p["text_blocks"] for p in page_details),
-                "page_details": page_details
+                "page_details": page_details,
+                # Stage timings picked up by the Java side for metrics
+                "timings": {
+                    "render_seconds": render_seconds,
+                    "ocr_seconds": ocr_seconds
+                }
             },
             "success": True,
             "error": None
@@ -0,0 +1,47 @@
+#!/bin/bash
+# Start several knowledge extraction instances on one machine against the same PDF directory
+# Usage: scripts/run_cluster_local.sh <pdf-directory> [node-count]
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+PDF_DIR="$1"
+NODES="${2:-3}"
+
+if [ -z "$PDF_DIR" ]; then
+    echo "Usage: $0 <pdf-directory> [node-count]"
+    exit 1
+fi
+
+JAR="$(ls "$PROJECT_ROOT"/target/knowledge-*.jar 2>/dev/null | grep -v original | head -n 1)"
+if [ -z "$JAR" ]; then
+    echo "Error: no jar in target/. Build it first with ./mvnw -DskipTests package"
+    exit 1
+fi
+
+export CLUSTER_ENABLED=true
+export CLUSTER_DIR="${CLUSTER_DIR:-$PROJECT_ROOT/data/cluster}"
+export STORAGE_DIR="${STORAGE_DIR:-$PROJECT_ROOT/data/knowledge}"
+# Each invocation is a new run unless a job id is given; reuse one to resume an interrupted run
+export CLUSTER_JOB_ID="${CLUSTER_JOB_ID:-run-$(date +%Y%m%d%H%M%S)}"
+LOG_DIR="$PROJECT_ROOT/data/cluster-logs"
+mkdir -p "$LOG_DIR"
+
+echo "Starting $NODES nodes on $PDF_DIR as job $CLUSTER_JOB_ID (leases in $CLUSTER_DIR, output in $STORAGE_DIR)"
+
+START=$(date +%s)
+PIDS=()
+for i in $(seq 1 "$NODES"); do
+    CLUSTER_NODE_ID="node-$i" java -jar "$JAR" "$PDF_DIR" > "$LOG_DIR/node-$i.log" 2>&1 &
+    PIDS+=($!)
+    echo "  node-$i: pid $! log $LOG_DIR/node-$i.log"
+done
+
+for pid in "${PIDS[@]}"; do
+    wait "$pid" || echo "Warning: pid $pid exited with an error"
+done
+
+echo ""
+echo "✓ All nodes finished in $(( $(date +%s) - START ))s"
+grep -h "processed" "$LOG_DIR"/node-*.log || true
@@ -0,0 +1,164 @@
+#!/usr/bin/env python3
+"""
+Stand-in for parse_pdf.py used by the ingestion load test.
+It honours the same contract (PDF path as the only argument, JSON result on stdout,
+progress on stderr, exit code 0/1) but fakes rendering and OCR with configurable sleeps,
+so pipeline throughput can be measured without PaddleOCR or real scans.
+
+Tunables (environment variables):
+    STUB_OCR_STARTUP_MS          fixed cost per invocation (interpreter + model load), default 200
+    STUB_OCR_RENDER_MS_PER_PAGE  simulated PDF-to-image rendering per page, default 5
+    STUB_OCR_MS_PER_PAGE         simulated OCR per page, default 20
+    STUB_OCR_JITTER              relative +/- jitter applied to every sleep, default 0.2
+    STUB_OCR_FAILURE_RATE        probability of failing the whole document, default 0.0
+    STUB_OCR_SEED                seed mixed with the file path for reproducible runs, default 42
+"""
+
+import json
+import os
+import random
+import re
+import sys
+import time
+import zlib
+from pathlib import Path
+from typing import Any, Dict, List
+
+WORDS = ["scanned", "invoice", "contract", "clause", "total", "amount", "signature",
+         "appendix", "page", "section", "知识", "合同", "金额", "签名"]
+
+CONTENT_STREAM = re.compile(rb"<< /Length (\d+) >>\nstream\n")
+PAGE_OBJECT = re.compile(rb"/Type /Page\b")
+TEXT_SHOW = re.compile(rb"\((.*?)\) Tj")
+
+
+def env_float(name: str, default: float) -> float:
+    value = os.environ.get(name)
+    return float(value) if value else default
+
+
+def simulate(ms: float, jitter: float, rng: random.Random) -> float:
+    """Sleep for the jittered duration and return the seconds actually spent."""
+    start = time.perf_counter()
+    if ms > 0:
+        time.sleep(ms * (1 + rng.uniform(-jitter, jitter)) / 1000.0)
+    return time.perf_counter() - start
+
+
+def read_pages(data: bytes) -> List[List[str]]:
+    """Return the text lines of every page; image-only pages yield an empty list."""
+    pages = []
+    for match in CONTENT_STREAM.finditer(data):
+        start = match.end()
+        stream = data[start:start + int(match.group(1))]
+        pages.append([t.decode("latin-1") for t in TEXT_SHOW.findall(stream)])
+    page_count = len(PAGE_OBJECT.findall(data))
+    # Pad in case a PDF not produced by the synthetic corpus has shared content streams
+    return (pages + [[] for _ in range(page_count)])[:page_count]
+
+
+def parse_pdf(pdf_path: str) -> Dict[str, Any]:
+    jitter = env_float("STUB_OCR_JITTER", 0.2)
+    seed = int(env_float("STUB_OCR_SEED", 42))
+    rng = random.Random(seed ^ zlib.crc32(pdf_path.encode("utf-8")))
+
+    try:
+        pdf_file = Path(pdf_path)
+
+        if not pdf_file.exists():
+            raise FileNotFoundError(f"PDF file not found: {pdf_path}")
+
+        simulate(env_float("STUB_OCR_STARTUP_MS", 200), jitter, rng)
+
+        print(f"Converting PDF to images: {pdf_path}", file=sys.stderr)
+        pages = read_pages(pdf_file.read_bytes())
+        render_seconds = simulate(env_float("STUB_OCR_RENDER_MS_PER_PAGE", 5) * len(pages), jitter, rng)
+
+        if rng.random() < env_float("STUB_OCR_FAILURE_RATE", 0.0):
+            raise RuntimeError("Simulated OCR failure")
+
+        ocr_ms = env_float("STUB_OCR_MS_PER_PAGE", 20)
+        all_text = []
+        page_details = []
+        ocr_seconds = []
+
+        for page_num, lines in enumerate(pages, start=1):
+            print(f"Processing page {page_num}/{len(pages)}", file=sys.stderr)
+            ocr_seconds.append(simulate(ocr_ms, jitter, rng))
+
+            if not lines:
+                # Image-only page: pretend OCR recognised a scanned page of text
+                lines = [" ".join(rng.choice(WORDS) for _ in range(rng.randint(3, 12)))
+                         for _ in range(rng.randint(15, 40))]
+
+            page_boxes = []
+            for index, text in enumerate(lines):
+                x = rng.randint(0, 1200)
+                y = index * 28
+                width = rng.randint(100, 700)
+                page_boxes.append({
+                    "text": text,
+                    "confidence": rng.uniform(0.8, 1.0),
+                    "box": [[x, y], [x + width, y], [x + width, y + 24], [x, y + 24]]
+                })
+
+            page_content = "\n".join(lines)
+            all_text.append(page_content)
+
+            page_details.append({
+                "page": page_num,
+                "text": page_content,
+                "boxes": page_boxes,
+                "text_blocks": len(page_boxes)
+            })
+
+        return {
+            "file_name": pdf_file.name,
+            "file_path": str(pdf_file.absolute()),
+            "content": "\n\n".join(all_text),
+            "metadata": {
+                "file_size": pdf_file.stat().st_size,
+                "pages": len(pages),
+                "parser": "stub",
+                "total_text_blocks": sum(p["text_blocks"] for p in page_details),
+                "page_details": page_details,
+                "timings": {
+                    "render_seconds": render_seconds,
+                    "ocr_seconds": ocr_seconds
+                }
+            },
+            "success": True,
+            "error": None
+        }
+
+    except Exception as e:
+        print(f"Error: {e}", file=sys.stderr)
+
+        return {
+            "file_name": Path(pdf_path).name if pdf_path else "unknown",
+            "file_path": pdf_path,
+            "content": None,
+            "metadata": None,
+            "success": False,
+            "error": str(e)
+        }
+
+
+def main():
+    """Main entry point for the script."""
+    if len(sys.argv) < 2:
+        print(json.dumps({
+            "success": False,
+            "error": "Usage: python stub_parse_pdf.py <pdf_file_path>"
+        }))
+        sys.exit(1)
+
+    result = parse_pdf(sys.argv[1])
+
+    print(json.dumps(result, ensure_ascii=False, indent=2))
+
+    sys.exit(0 if result["success"] else 1)
+
+
+if __name__ == "__main__":
+    main()
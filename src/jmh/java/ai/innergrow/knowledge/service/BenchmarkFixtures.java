@@ -0,0 +1,168 @@
+package ai.innergrow.knowledge.service;
+
+import ai.innergrow.knowledge.cluster.DocumentIdAllocator;
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
+import ai.innergrow.knowledge.model.PdfParseResult;
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Shared data generators for the JMH benchmarks
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] WORDS = {
+            "knowledge", "extraction", "document", "section", "table", "figure", "summary",
+            "agent", "pipeline", "report", "revenue", "quarter", "知识", "提取", "文档", "表格", "摘要"
+    };
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Per-file INFO logging would dominate the measurements, so keep only warnings and errors
+     */
+    static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("ai.innergrow.knowledge"))
+                .setLevel(Level.WARN);
+    }
+
+    /**
+     * Create a storage service writing into the given directory, as Spring would configure it
+     * @param storageDirectory Directory for knowledge JSON files
+     * @return Storage service
+     */
+    static KnowledgeStorageService newStorageService(Path storageDirectory) {
+        KnowledgeStorageService service = new KnowledgeStorageService(newMetrics(), new DocumentIdAllocator());
+        ReflectionTestUtils.setField(service, "storageDirectory", storageDirectory.toString());
+        return service;
+    }
+
+    /**
+     * Metrics backed by an in-memory registry, so meter updates are part of the measured cost
+     */
+    static IngestionMetrics newMetrics() {
+        return new IngestionMetrics(new SimpleMeterRegistry());
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Build a successful parse result with the metadata shape produced by scripts/parse_pdf.py
+     * @param index Sequence number used for the file name
+     * @param pages Number of OCR pages
+     * @param random Source of pseudo-random text
+     * @return Parse result
+     */
+    static PdfParseResult parseResult(int index, int pages, Random random) {
+        Map<String, Object> document = paddleOcrDocument("doc-" + index + ".pdf", pages, random);
+        PdfParseResult result = new PdfParseResult();
+        result.setFileName((String) document.get("file_name"));
+        result.setFilePath((String) document.get("file_path"));
+        result.setContent((String) document.get("content"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> metadata = (Map<String, Object>) document.get("metadata");
+        result.setMetadata(metadata);
+        result.setSuccess(true);
+        return result;
+    }
+
+    /**
+     * Render the JSON printed by scripts/parse_pdf.py for a document of the given size
+     * @param pages Number of OCR pages
+     * @param random Source of pseudo-random text
+     * @return Pretty-printed JSON, as emitted with indent=2
+     */
+    static String paddleOcrJson(int pages, Random random) throws IOException {
+        return objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(paddleOcrDocument("scan.pdf", pages, random));
+    }
+
+    private static Map<String, Object> paddleOcrDocument(String fileName, int pages, Random random) {
+        List<Map<String, Object>> pageDetails = new ArrayList<>(pages);
+        List<String> pageTexts = new ArrayList<>(pages);
+        List<Double> ocrSeconds = new ArrayList<>(pages);
+        int totalBlocks = 0;
+
+        for (int page = 1; page <= pages; page++) {
+            int blocks = 20 + random.nextInt(40);
+            List<Map<String, Object>> boxes = new ArrayList<>(blocks);
+            StringBuilder pageText = new StringBuilder();
+
+            for (int block = 0; block < blocks; block++) {
+                String text = sentence(random);
+                int x = random.nextInt(1200);
+                int y = block * 28 + random.nextInt(6);
+                int width = 100 + random.nextInt(600);
+
+                Map<String, Object> box = new LinkedHashMap<>();
+                box.put("text", text);
+                box.put("confidence", 0.80 + random.nextDouble() * 0.2);
+                box.put("box", List.of(
+                        List.of(x, y), List.of(x + width, y),
+                        List.of(x + width, y + 24), List.of(x, y + 24)));
+                boxes.add(box);
+
+                if (block > 0) {
+                    pageText.append('\n');
+                }
+                pageText.append(text);
+            }
+
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("page", page);
+            detail.put("text", pageText.toString());
+            detail.put("boxes", boxes);
+            detail.put("text_blocks", blocks);
+            pageDetails.add(detail);
+            pageTexts.add(pageText.toString());
+            ocrSeconds.add(0.5 + random.nextDouble());
+            totalBlocks += blocks;
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("file_size", 40_000L * pages);
+        metadata.put("pages", pages);
+        metadata.put("parser", "PaddleOCR");
+        metadata.put("total_text_blocks", totalBlocks);
+        metadata.put("page_details", pageDetails);
+        metadata.put("timings", Map.of("render_seconds", 0.2 * pages, "ocr_seconds", ocrSeconds));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("file_name", fileName);
+        document.put("file_path", "/data/scans/" + fileName);
+        document.put("content", String.join("\n\n", pageTexts));
+        document.put("metadata", metadata);
+        document.put("success", true);
+        document.put("error", null);
+        return document;
+    }
+
+    private static String sentence(Random random) {
+        int words = 3 + random.nextInt(10);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package ai.innergrow.knowledge.service;
+
+import ai.innergrow.knowledge.model.KnowledgeDocument;
+import ai.innergrow.knowledge.model.PdfParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the file-system backed knowledge store at different store sizes.
+ * The store is pre-populated once per trial and documents written by the save benchmarks are removed
+ * after every iteration, so each iteration starts from exactly {@code storeSize} documents.
+ *
+ * <p>The read benchmarks load the whole store into memory on every call (roughly 20 KB of heap per stored
+ * document), which is what the 4 GB heap below is sized for. One million documents are left out of the
+ * default sweep; opt in with {@code -p storeSize=1000000 -jvmArgsAppend -Xmx32g} and about 10 GB of free disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KnowledgeStorageServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int PAGES_PER_STORED_DOCUMENT = 1;
+    private static final Pattern STORED_FILE = Pattern.compile("^knowledge_(\\d+)_");
+
+    @Param({"1000", "10000", "100000"})
+    public int storeSize;
+
+    private Path storageDirectory;
+    private KnowledgeStorageService storageService;
+    private PdfParseResult singleResult;
+    private List<PdfParseResult> batch;
+    private long middleId;
+
+    @Setup(Level.Trial)
+    public void populateStore() throws IOException {
+        BenchmarkFixtures.quietLogging();
+        storageDirectory = Files.createTempDirectory("knowledge-bench-");
+        storageService = BenchmarkFixtures.newStorageService(storageDirectory);
+
+        Random random = new Random(42);
+        List<PdfParseResult> chunk = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < storeSize; i++) {
+            chunk.add(BenchmarkFixtures.parseResult(i, PAGES_PER_STORED_DOCUMENT, random));
+            if (chunk.size() == BATCH_SIZE) {
+                storageService.saveKnowledgeBatch(chunk);
+                chunk.clear();
+            }
+        }
+        storageService.saveKnowledgeBatch(chunk);
+        middleId = storeSize / 2 + 1;
+
+        singleResult = BenchmarkFixtures.parseResult(storeSize, 3, random);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkFixtures.parseResult(storeSize + i, 3, random));
+        }
+    }
+
+    /**
+     * Drop documents written during the iteration; the populated store holds ids 1..storeSize
+     */
+    @TearDown(Level.Iteration)
+    public void removeWrittenDocuments() throws IOException {
+        try (Stream<Path> files = Files.list(storageDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = STORED_FILE.matcher(file.getFileName().toString());
+                if (matcher.find() && Long.parseLong(matcher.group(1)) > storeSize) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        BenchmarkFixtures.deleteDirectory(storageDirectory);
+    }
+
+    @Benchmark
+    public KnowledgeDocument saveKnowledge() {
+        return storageService.saveKnowledge(singleResult);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int saveKnowledgeBatch() {
+        return storageService.saveKnowledgeBatch(batch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<KnowledgeDocument> getAllKnowledge() {
+        return storageService.getAllKnowledge();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public KnowledgeDocument getKnowledgeById() {
+        return storageService.getKnowledgeById(middleId);
+    }
+}
@@ -0,0 +1,52 @@
+package ai.innergrow.knowledge.service;
+
+import ai.innergrow.knowledge.model.PdfParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks decoding of the PaddleOCR JSON that {@link PdfParserService#parseSinglePdf} reads from the script
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaddleOcrDecodeBenchmark {
+
+    @Param({"100", "300", "800"})
+    public int pages;
+
+    private PdfParserService parserService;
+    private String scriptOutput;
+
+    @Setup(Level.Trial)
+    public void generateOutput() throws IOException {
+        BenchmarkFixtures.quietLogging();
+        parserService = new PdfParserService(BenchmarkFixtures.newMetrics());
+        scriptOutput = BenchmarkFixtures.paddleOcrJson(pages, new Random(42));
+    }
+
+    @Benchmark
+    public PdfParseResult decode() {
+        PdfParseResult result = new PdfParseResult();
+        result.setFilePath("/data/scans/scan.pdf");
+        parserService.applyScriptOutput(result, scriptOutput);
+        return result;
+    }
+}
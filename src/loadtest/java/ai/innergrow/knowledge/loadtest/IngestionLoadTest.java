@@ -0,0 +1,286 @@
+package ai.innergrow.knowledge.loadtest;
+
+import ai.innergrow.knowledge.agent.PdfProcessingTool;
+import ai.innergrow.knowledge.cluster.DocumentIdAllocator;
+import ai.innergrow.knowledge.cluster.FileLeaseManager;
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
+import ai.innergrow.knowledge.model.KnowledgeDocument;
+import ai.innergrow.knowledge.model.PdfParseResult;
+import ai.innergrow.knowledge.service.KnowledgeStorageService;
+import ai.innergrow.knowledge.service.PdfParserService;
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end ingestion load test: generates a synthetic PDF corpus, runs it through
+ * {@link PdfProcessingTool} with scripts/stub_parse_pdf.py standing in for PaddleOCR,
+ * and reports throughput, per-document latency and peak heap.
+ *
+ * <p>Options are passed as {@code --name=value}, e.g.
+ * {@code ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--docs=500 --max-pages=200"}.
+ */
+public class IngestionLoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("docs", "200"),
+            Map.entry("min-pages", "1"),
+            Map.entry("max-pages", "50"),
+            Map.entry("image-ratio", "0.5"),
+            Map.entry("mean-image-kb", "150"),
+            Map.entry("seed", "42"),
+            Map.entry("startup-ms", "200"),
+            Map.entry("render-ms-per-page", "5"),
+            Map.entry("ocr-ms-per-page", "20"),
+            Map.entry("jitter", "0.2"),
+            Map.entry("failure-rate", "0.02"),
+            Map.entry("python", "python3"),
+            Map.entry("script", "scripts/stub_parse_pdf.py"),
+            Map.entry("work-dir", ""),
+            Map.entry("keep", "false"),
+            Map.entry("log-level", "INFO")
+    );
+
+    private IngestionLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("ai.innergrow.knowledge"))
+                .setLevel(Level.toLevel(options.get("log-level")));
+
+        Path workDir = options.get("work-dir").isEmpty()
+                ? Files.createTempDirectory("knowledge-loadtest-")
+                : Files.createDirectories(Paths.get(options.get("work-dir")));
+
+        try {
+            run(options, workDir);
+        } finally {
+            if (!Boolean.parseBoolean(options.get("keep"))) {
+                FileSystemUtils.deleteRecursively(workDir);
+            }
+        }
+    }
+
+    private static void run(Map<String, String> options, Path workDir) throws IOException {
+        SyntheticPdfCorpus generator = new SyntheticPdfCorpus(
+                Integer.parseInt(options.get("min-pages")),
+                Integer.parseInt(options.get("max-pages")),
+                Double.parseDouble(options.get("image-ratio")),
+                Integer.parseInt(options.get("mean-image-kb")),
+                Long.parseLong(options.get("seed")));
+        SyntheticPdfCorpus.Corpus corpus = generator.generate(
+                workDir.resolve("corpus"), Integer.parseInt(options.get("docs")));
+        System.out.printf(Locale.ROOT, "Generated %d documents, %d pages, %.1f MB in %s%n",
+                corpus.documents(), corpus.totalPages(), corpus.totalBytes() / 1048576.0, corpus.directory());
+
+        LatencyRecorder latencies = new LatencyRecorder();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IngestionMetrics metrics = new IngestionMetrics(registry);
+
+        TimedPdfParserService parserService = new TimedPdfParserService(metrics, latencies);
+        ReflectionTestUtils.setField(parserService, "pythonExecutable",
+                writeStubLauncher(workDir, options).toString());
+        ReflectionTestUtils.setField(parserService, "pythonScriptPath",
+                Paths.get(options.get("script")).toAbsolutePath().toString());
+
+        TimedKnowledgeStorageService storageService = new TimedKnowledgeStorageService(metrics, latencies);
+        ReflectionTestUtils.setField(storageService, "storageDirectory",
+                workDir.resolve("knowledge").toString());
+
+        PdfProcessingTool tool = new PdfProcessingTool(parserService, storageService, new FileLeaseManager());
+
+        resetPeakHeap();
+        long start = System.nanoTime();
+        PdfProcessingTool.Response response = tool.apply(
+                new PdfProcessingTool.Request(corpus.directory().toString()));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long fallbacks = (long) registry.get("knowledge.ingest.decode.fallback").counter().count();
+        report(corpus, response, latencies, fallbacks, seconds, peakHeapBytes());
+        reportStages(registry);
+
+        // Raw-output fallbacks skip the JSON decode and metadata serialization, so the numbers above
+        // would describe a path production is not meant to take
+        long decoded = response.totalProcessed() - latencies.failures();
+        if (decoded > 0 && fallbacks >= decoded) {
+            throw new IllegalStateException("All " + decoded + " successfully parsed documents fell back to raw"
+                    + " script output; check that the parser script prints only JSON on stdout");
+        }
+    }
+
+    /**
+     * The parser service inherits the JVM environment, so the stub tunables are baked into a launcher script
+     */
+    private static Path writeStubLauncher(Path workDir, Map<String, String> options) throws IOException {
+        Path launcher = workDir.resolve("stub-python.sh");
+        String script = "#!/bin/sh\n"
+                + "export STUB_OCR_STARTUP_MS=" + options.get("startup-ms") + "\n"
+                + "export STUB_OCR_RENDER_MS_PER_PAGE=" + options.get("render-ms-per-page") + "\n"
+                + "export STUB_OCR_MS_PER_PAGE=" + options.get("ocr-ms-per-page") + "\n"
+                + "export STUB_OCR_JITTER=" + options.get("jitter") + "\n"
+                + "export STUB_OCR_FAILURE_RATE=" + options.get("failure-rate") + "\n"
+                + "export STUB_OCR_SEED=" + options.get("seed") + "\n"
+                + "exec " + options.get("python") + " \"$@\"\n";
+        Files.writeString(launcher, script, StandardCharsets.UTF_8);
+        if (!launcher.toFile().setExecutable(true)) {
+            throw new IOException("Could not make stub launcher executable: " + launcher);
+        }
+        return launcher;
+    }
+
+    private static void report(SyntheticPdfCorpus.Corpus corpus, PdfProcessingTool.Response response,
+                               LatencyRecorder latencies, long fallbacks, double seconds, long peakHeap) {
+        long[] perDocument = latencies.perDocumentNanos();
+
+        System.out.println();
+        System.out.println("Ingestion load test");
+        System.out.printf(Locale.ROOT, "  result           : %s%n", response.message());
+        System.out.printf(Locale.ROOT, "  documents        : %d processed, %d saved, %d parse failures%n",
+                response.totalProcessed(), response.totalSaved(), latencies.failures());
+        System.out.printf(Locale.ROOT, "  decode fallbacks : %d stored as raw output instead of decoded JSON%n", fallbacks);
+        System.out.printf(Locale.ROOT, "  wall time        : %.2f s%n", seconds);
+        System.out.printf(Locale.ROOT, "  throughput       : %.2f docs/s, %.2f pages/s%n",
+                corpus.documents() / seconds, corpus.totalPages() / seconds);
+        System.out.printf(Locale.ROOT, "  latency per doc  : p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(perDocument, 0.50) / 1e6, percentile(perDocument, 0.99) / 1e6,
+                percentile(perDocument, 1.0) / 1e6);
+        System.out.printf(Locale.ROOT, "  peak heap        : %.1f MB%n", peakHeap / 1048576.0);
+    }
+
+    private static void reportStages(SimpleMeterRegistry registry) {
+        System.out.println("  stage breakdown  :");
+        for (Timer timer : registry.find("knowledge.ingest.stage").timers()) {
+            System.out.printf(Locale.ROOT, "    %-14s count %7d, total %9.2f s, mean %8.2f ms, max %8.2f ms%n",
+                    timer.getId().getTag("stage"), timer.count(), timer.totalTime(TimeUnit.SECONDS),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Sum of per-pool peaks, which bounds the true heap peak from above
+     */
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name + ", known: " + DEFAULTS.keySet());
+            }
+            options.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Accumulates parse and save time per document, keyed by PDF path
+     */
+    static final class LatencyRecorder {
+
+        private final Map<String, Long> nanosByFile = new ConcurrentHashMap<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        void record(String filePath, long nanos) {
+            nanosByFile.merge(filePath, nanos, Long::sum);
+        }
+
+        void recordFailure() {
+            failures.incrementAndGet();
+        }
+
+        int failures() {
+            return failures.get();
+        }
+
+        long[] perDocumentNanos() {
+            return nanosByFile.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+
+    static final class TimedPdfParserService extends PdfParserService {
+
+        private final LatencyRecorder latencies;
+
+        TimedPdfParserService(IngestionMetrics metrics, LatencyRecorder latencies) {
+            super(metrics);
+            this.latencies = latencies;
+        }
+
+        @Override
+        public PdfParseResult parseSinglePdf(String pdfFilePath) {
+            long start = System.nanoTime();
+            PdfParseResult result = super.parseSinglePdf(pdfFilePath);
+            latencies.record(pdfFilePath, System.nanoTime() - start);
+            if (!result.isSuccess()) {
+                latencies.recordFailure();
+            }
+            return result;
+        }
+    }
+
+    static final class TimedKnowledgeStorageService extends KnowledgeStorageService {
+
+        private final LatencyRecorder latencies;
+
+        TimedKnowledgeStorageService(IngestionMetrics metrics, LatencyRecorder latencies) {
+            super(metrics, new DocumentIdAllocator());
+            this.latencies = latencies;
+        }
+
+        @Override
+        public KnowledgeDocument saveKnowledge(PdfParseResult parseResult) {
+            long start = System.nanoTime();
+            KnowledgeDocument document = super.saveKnowledge(parseResult);
+            latencies.record(parseResult.getFilePath(), System.nanoTime() - start);
+            return document;
+        }
+    }
+}
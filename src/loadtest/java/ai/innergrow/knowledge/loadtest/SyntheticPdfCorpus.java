@@ -0,0 +1,195 @@
+package ai.innergrow.knowledge.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a corpus of small but well-formed PDF files for load testing.
+ * Text pages carry Helvetica text lines; image pages carry a single uncompressed
+ * grayscale image that stands in for a scanned page and dominates the file size.
+ */
+public class SyntheticPdfCorpus {
+
+    private static final String[] WORDS = {
+            "quarterly", "report", "revenue", "contract", "appendix", "section", "policy",
+            "customer", "agreement", "summary", "total", "invoice", "schedule", "terms"
+    };
+
+    private static final int IMAGE_WIDTH = 1024;
+    private static final double IMAGE_SIZE_SIGMA = 0.75;
+
+    private final int minPages;
+    private final int maxPages;
+    private final double imagePageRatio;
+    private final int meanImageKb;
+    private final Random random;
+
+    /**
+     * @param minPages Minimum pages per document
+     * @param maxPages Maximum pages per document (uniformly distributed)
+     * @param imagePageRatio Fraction of pages that are image-only scans
+     * @param meanImageKb Mean size of a page image; sizes are log-normally distributed around it
+     * @param seed Seed for reproducible corpora
+     */
+    public SyntheticPdfCorpus(int minPages, int maxPages, double imagePageRatio, int meanImageKb, long seed) {
+        if (minPages < 1 || maxPages < minPages) {
+            throw new IllegalArgumentException("Invalid page range: " + minPages + ".." + maxPages);
+        }
+        this.minPages = minPages;
+        this.maxPages = maxPages;
+        this.imagePageRatio = imagePageRatio;
+        this.meanImageKb = meanImageKb;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Write the given number of PDF files into a directory
+     * @param directory Target directory, created if missing
+     * @param documents Number of documents to generate
+     * @return Summary of the generated corpus
+     */
+    public Corpus generate(Path directory, int documents) throws IOException {
+        Files.createDirectories(directory);
+        long totalPages = 0;
+        long totalBytes = 0;
+
+        for (int i = 0; i < documents; i++) {
+            int pages = minPages + random.nextInt(maxPages - minPages + 1);
+            byte[] pdf = buildPdf(pages);
+            Files.write(directory.resolve(String.format("synthetic_%06d.pdf", i)), pdf);
+            totalPages += pages;
+            totalBytes += pdf.length;
+        }
+
+        return new Corpus(directory, documents, totalPages, totalBytes);
+    }
+
+    private byte[] buildPdf(int pages) throws IOException {
+        // Plan the pages first so object numbers are known before the page tree is written
+        List<PagePlan> plans = new ArrayList<>(pages);
+        int nextObject = 4;
+        for (int i = 0; i < pages; i++) {
+            boolean image = random.nextDouble() < imagePageRatio;
+            int pageObject = nextObject++;
+            int contentObject = nextObject++;
+            int imageObject = image ? nextObject++ : -1;
+            plans.add(new PagePlan(pageObject, contentObject, imageObject));
+        }
+
+        PdfWriter pdf = new PdfWriter(nextObject);
+        pdf.header();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+
+        StringBuilder kids = new StringBuilder();
+        for (PagePlan plan : plans) {
+            kids.append(plan.pageObject()).append(" 0 R ");
+        }
+        pdf.object(2, "<< /Type /Pages /Kids [" + kids.toString().trim() + "] /Count " + pages + " >>");
+        pdf.object(3, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>");
+
+        for (PagePlan plan : plans) {
+            String resources = plan.imageObject() > 0
+                    ? "<< /XObject << /Im1 " + plan.imageObject() + " 0 R >> >>"
+                    : "<< /Font << /F1 3 0 R >> >>";
+            pdf.object(plan.pageObject(), "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Resources "
+                    + resources + " /Contents " + plan.contentObject() + " 0 R >>");
+
+            if (plan.imageObject() > 0) {
+                pdf.stream(plan.contentObject(), "",
+                        "q 612 0 0 792 0 0 cm /Im1 Do Q".getBytes(StandardCharsets.US_ASCII));
+                int height = Math.max(1, imageBytes() / IMAGE_WIDTH);
+                byte[] pixels = new byte[IMAGE_WIDTH * height];
+                random.nextBytes(pixels);
+                pdf.stream(plan.imageObject(), "/Type /XObject /Subtype /Image /Width " + IMAGE_WIDTH
+                        + " /Height " + height + " /ColorSpace /DeviceGray /BitsPerComponent 8 ", pixels);
+            } else {
+                pdf.stream(plan.contentObject(), "", textContent().getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        return pdf.finish();
+    }
+
+    private int imageBytes() {
+        double gaussian = random.nextGaussian();
+        double factor = Math.exp(IMAGE_SIZE_SIGMA * gaussian - IMAGE_SIZE_SIGMA * IMAGE_SIZE_SIGMA / 2);
+        return (int) (meanImageKb * 1024L * factor);
+    }
+
+    private String textContent() {
+        int lines = 20 + random.nextInt(30);
+        StringBuilder content = new StringBuilder("BT /F1 11 Tf 72 740 Td 14 TL\n");
+        for (int line = 0; line < lines; line++) {
+            content.append('(');
+            int words = 4 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    content.append(' ');
+                }
+                content.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            content.append(") Tj T*\n");
+        }
+        return content.append("ET").toString();
+    }
+
+    /**
+     * Summary of a generated corpus
+     */
+    public record Corpus(Path directory, int documents, long totalPages, long totalBytes) {
+    }
+
+    private record PagePlan(int pageObject, int contentObject, int imageObject) {
+    }
+
+    /**
+     * Minimal PDF serializer that tracks object offsets for the cross-reference table
+     */
+    private static final class PdfWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final long[] offsets;
+
+        PdfWriter(int objectCount) {
+            this.offsets = new long[objectCount];
+        }
+
+        void header() throws IOException {
+            ascii("%PDF-1.4\n");
+        }
+
+        void object(int number, String body) throws IOException {
+            offsets[number] = out.size();
+            ascii(number + " 0 obj\n" + body + "\nendobj\n");
+        }
+
+        void stream(int number, String dictionary, byte[] data) throws IOException {
+            offsets[number] = out.size();
+            ascii(number + " 0 obj\n<< " + dictionary + "/Length " + data.length + " >>\nstream\n");
+            out.write(data);
+            ascii("\nendstream\nendobj\n");
+        }
+
+        byte[] finish() throws IOException {
+            long xref = out.size();
+            StringBuilder table = new StringBuilder("xref\n0 " + offsets.length + "\n0000000000 65535 f \n");
+            for (int i = 1; i < offsets.length; i++) {
+                table.append(String.format("%010d 00000 n \n", offsets[i]));
+            }
+            table.append("trailer\n<< /Size ").append(offsets.length).append(" /Root 1 0 R >>\n")
+                    .append("startxref\n").append(xref).append("\n%%EOF\n");
+            ascii(table.toString());
+            return out.toByteArray();
+        }
+
+        private void ascii(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
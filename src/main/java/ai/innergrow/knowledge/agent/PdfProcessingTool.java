@@ -1,5 +1,6 @@
 package ai.innergrow.knowledge.agent;
 
+import ai.innergrow.knowledge.cluster.FileLeaseManager;
 import ai.innergrow.knowledge.model.PdfParseResult;
 import ai.innergrow.knowledge.service.KnowledgeStorageService;
 import ai.innergrow.knowledge.service.PdfParserService;
@@ -7,7 +8,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -20,11 +27,14 @@ public class PdfProcessingTool implements Function<PdfProcessingTool.Request, Pd
     
     private final PdfParserService pdfParserService;
     private final KnowledgeStorageService knowledgeStorageService;
+    private final FileLeaseManager fileLeaseManager;
 
     public PdfProcessingTool(PdfParserService pdfParserService, 
-                            KnowledgeStorageService knowledgeStorageService) {
+                            KnowledgeStorageService knowledgeStorageService,
+                            FileLeaseManager fileLeaseManager) {
         this.pdfParserService = pdfParserService;
         this.knowledgeStorageService = knowledgeStorageService;
+        this.fileLeaseManager = fileLeaseManager;
     }
 
     @Override
@@ -32,6 +42,10 @@ public class PdfProcessingTool implements Function<PdfProcessingTool.Request, Pd
         logger.info("Processing PDF directory: {}", request.pdfDirectory());
         
         try {
+            if (fileLeaseManager.isEnabled()) {
+                return processClustered(request.pdfDirectory());
+            }
+
             // Parse PDFs using Python script
             List<PdfParseResult> parseResults = pdfParserService.parsePdfDirectory(request.pdfDirectory());
             
@@ -46,6 +60,15 @@ public class PdfProcessingTool implements Function<PdfProcessingTool.Request, Pd
                 savedCount
             );
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while processing PDFs from directory: {}", request.pdfDirectory());
+            return new Response(
+                false,
+                "Interrupted while processing: " + request.pdfDirectory(),
+                0,
+                0
+            );
         } catch (Exception e) {
             logger.error("Error processing PDFs from directory: {}", request.pdfDirectory(), e);
             return new Response(
@@ -57,6 +80,92 @@ public class PdfProcessingTool implements Function<PdfProcessingTool.Request, Pd
         }
     }
 
+    /**
+     * Process the files of a shared directory together with other nodes, claiming each file through a lease.
+     * Keeps polling while other nodes hold leases so that files of a node that died are picked up once its
+     * leases expire.
+     */
+    private Response processClustered(String pdfDirectory) throws IOException, InterruptedException {
+        Path dirPath = Paths.get(pdfDirectory);
+        if (!Files.isDirectory(dirPath)) {
+            return new Response(false, "Error: Invalid directory: " + pdfDirectory, 0, 0);
+        }
+
+        List<File> pdfFiles = pdfParserService.findPdfFiles(dirPath);
+        logger.info("Node {} found {} PDF files in shared directory: {}",
+            fileLeaseManager.getNodeId(), pdfFiles.size(), pdfDirectory);
+
+        int alreadyDone = 0;
+        for (File pdfFile : pdfFiles) {
+            if (fileLeaseManager.isDone(fileLeaseManager.keyFor(dirPath, pdfFile.toPath()))) {
+                alreadyDone++;
+            }
+        }
+        if (alreadyDone > 0) {
+            logger.warn("Skipping {} PDFs finished by an earlier run in the same scope; set a new cluster job id to ingest them again",
+                alreadyDone);
+        }
+
+        int processedCount = 0;
+        int savedCount = 0;
+        boolean leasedElsewhere = true;
+
+        while (leasedElsewhere) {
+            leasedElsewhere = false;
+
+            for (File pdfFile : pdfFiles) {
+                String key = fileLeaseManager.keyFor(dirPath, pdfFile.toPath());
+                if (fileLeaseManager.isDone(key)) {
+                    continue;
+                }
+
+                Optional<FileLeaseManager.Lease> lease = fileLeaseManager.tryAcquire(key);
+                if (lease.isEmpty()) {
+                    leasedElsewhere = true;
+                    continue;
+                }
+                // Another node may have finished the file between the check and the claim
+                if (fileLeaseManager.isDone(key)) {
+                    fileLeaseManager.release(lease.get());
+                    continue;
+                }
+
+                try {
+                    PdfParseResult result = pdfParserService.parseSinglePdf(pdfFile.getAbsolutePath());
+                    processedCount++;
+
+                    // A node that lost its lease, e.g. after a long pause, leaves the file to the new owner
+                    if (!fileLeaseManager.isOwned(lease.get())) {
+                        logger.warn("Lost lease while parsing, skipping save for: {}", pdfFile);
+                        fileLeaseManager.release(lease.get());
+                        leasedElsewhere = true;
+                        continue;
+                    }
+                    knowledgeStorageService.saveKnowledgeOrThrow(result);
+                    savedCount++;
+                    if (!fileLeaseManager.complete(lease.get())) {
+                        leasedElsewhere = true;
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to process leased file: {}", pdfFile, e);
+                    fileLeaseManager.release(lease.get());
+                }
+            }
+
+            if (leasedElsewhere) {
+                Thread.sleep(fileLeaseManager.getPollInterval().toMillis());
+            }
+        }
+
+        return new Response(
+            true,
+            String.format("Node %s processed %d PDFs and saved %d to database, %d were already done",
+                fileLeaseManager.getNodeId(), processedCount, savedCount, alreadyDone),
+            processedCount,
+            savedCount
+        );
+    }
+
     /**
      * Request record for PDF processing
      */
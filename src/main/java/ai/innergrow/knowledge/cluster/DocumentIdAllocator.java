@@ -0,0 +1,94 @@
+package ai.innergrow.knowledge.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Hands out knowledge document ids.
+ * Standalone instances count from 1. In cluster mode ids come from blocks claimed on the shared
+ * directory by creating {@code ids/block-<n>} with CREATE_NEW, so they stay unique across nodes and restarts.
+ */
+@Component
+public class DocumentIdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIdAllocator.class);
+    private static final String BLOCK_PREFIX = "block-";
+
+    @Value("${knowledge.cluster.enabled:false}")
+    private boolean clustered;
+
+    @Value("${knowledge.cluster.directory:data/cluster}")
+    private String clusterDirectory;
+
+    @Value("${knowledge.cluster.id-block-size:1000}")
+    private long blockSize;
+
+    private final AtomicLong localIds = new AtomicLong(1);
+    private long nextId;
+    private long blockEnd;
+    private long blockHint = -1;
+
+    /**
+     * @return A document id not handed out before
+     */
+    public long nextId() {
+        if (!clustered) {
+            return localIds.getAndIncrement();
+        }
+        synchronized (this) {
+            if (nextId >= blockEnd) {
+                claimBlock();
+            }
+            return nextId++;
+        }
+    }
+
+    private void claimBlock() {
+        try {
+            Path idsDirectory = Paths.get(clusterDirectory, "ids");
+            Files.createDirectories(idsDirectory);
+            if (blockHint < 0) {
+                blockHint = highestClaimedBlock(idsDirectory) + 1;
+            }
+            while (true) {
+                long block = blockHint++;
+                try {
+                    Files.writeString(idsDirectory.resolve(BLOCK_PREFIX + block),
+                            ManagementFactory.getRuntimeMXBean().getName(), StandardOpenOption.CREATE_NEW);
+                    nextId = block * blockSize + 1;
+                    blockEnd = nextId + blockSize;
+                    logger.debug("Claimed document id block {} ({} - {})", block, nextId, blockEnd - 1);
+                    return;
+                } catch (FileAlreadyExistsException e) {
+                    // Another node claimed this block first, try the next one
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to claim a document id block in " + clusterDirectory, e);
+        }
+    }
+
+    private static long highestClaimedBlock(Path idsDirectory) throws IOException {
+        try (Stream<Path> blocks = Files.list(idsDirectory)) {
+            return blocks
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(BLOCK_PREFIX))
+                    .mapToLong(name -> Long.parseLong(name.substring(BLOCK_PREFIX.length())))
+                    .max()
+                    .orElse(-1);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package ai.innergrow.knowledge.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims PDF files through lease files on a shared directory so several instances can split one input directory.
+ *
+ * <p>Each file key owns a series of generation files {@code <key>.1, <key>.2, ...}. The newest generation is the
+ * current lease and its modification time is the heartbeat. A node takes over by creating the next generation
+ * with CREATE_NEW, which only one node can win, and only once the current lease has not been renewed for the TTL.
+ * Finished files get a {@code <key>.done} marker. Node clocks must agree to well within the TTL.
+ *
+ * <p>Done markers are kept, so a run that is restarted resumes where it stopped. Keys are scoped to the job id
+ * or, without one, to the input directory, so other batches that reuse file names are not skipped.
+ */
+@Component
+public class FileLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileLeaseManager.class);
+    private static final String DONE_SUFFIX = ".done";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    @Value("${knowledge.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${knowledge.cluster.directory:data/cluster}")
+    private String clusterDirectory;
+
+    @Value("${knowledge.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${knowledge.cluster.lease-ttl:PT2M}")
+    private Duration leaseTtl;
+
+    @Value("${knowledge.cluster.job-id:}")
+    private String jobId;
+
+    @Value("${knowledge.cluster.share-root:}")
+    private String shareRoot;
+
+    private final Set<Lease> heldLeases = ConcurrentHashMap.newKeySet();
+    // Serializes renewing and releasing, so a renewal cannot revive a lease released in the meantime
+    private final Object renewLock = new Object();
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * @return Whether cluster mode is switched on
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Identifier of this node, defaulting to the JVM's pid@host name
+     */
+    public String getNodeId() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return nodeId;
+    }
+
+    /**
+     * @return How long a waiting node should sleep before looking for reclaimable leases again
+     */
+    public Duration getPollInterval() {
+        return leaseTtl.dividedBy(4);
+    }
+
+    /**
+     * Derive the lease key of a file from the run scope and its path relative to the scanned directory
+     * @param baseDirectory Directory being ingested
+     * @param file File inside that directory
+     * @return Hex key
+     */
+    public String keyFor(Path baseDirectory, Path file) {
+        Path base = baseDirectory.toAbsolutePath().normalize();
+        String relative = portable(base.relativize(file.toAbsolutePath().normalize()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(runScope(base).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(relative.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Name the run a file belongs to: the job id when set, otherwise the input directory, taken relative to the
+     * share root when it lies below it so nodes that mount the share at different paths agree on it
+     * @param baseDirectory Absolute, normalized directory being ingested
+     * @return Scope that is part of every key of the run
+     */
+    String runScope(Path baseDirectory) {
+        if (jobId != null && !jobId.isBlank()) {
+            return "job:" + jobId;
+        }
+        if (shareRoot != null && !shareRoot.isBlank()) {
+            Path root = Paths.get(shareRoot).toAbsolutePath().normalize();
+            if (baseDirectory.startsWith(root)) {
+                return "dir:" + portable(root.relativize(baseDirectory));
+            }
+        }
+        return "dir:" + portable(baseDirectory);
+    }
+
+    private static String portable(Path path) {
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * @param key File key
+     * @return Whether some node already finished the file
+     */
+    public boolean isDone(String key) {
+        return Files.exists(keyDirectory(key).resolve(key + DONE_SUFFIX));
+    }
+
+    /**
+     * Try to claim a file, taking over the lease of a node that stopped renewing it
+     * @param key File key
+     * @return The lease if this node now owns the file, empty if another live node does
+     */
+    public Optional<Lease> tryAcquire(String key) throws IOException {
+        Path directory = keyDirectory(key);
+        Files.createDirectories(directory);
+
+        int generation = 0;
+        while (Files.exists(leasePath(directory, key, generation + 1))) {
+            generation++;
+        }
+        if (generation > 0 && !isExpired(leasePath(directory, key, generation))) {
+            return Optional.empty();
+        }
+
+        Path next = leasePath(directory, key, generation + 1);
+        try {
+            Files.writeString(next, getNodeId(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            // Another node won the race for this generation
+            return Optional.empty();
+        }
+        if (generation > 0) {
+            logger.info("Reclaimed expired lease {} generation {}", key, generation);
+        }
+
+        Lease lease = new Lease(key, generation + 1, next);
+        heldLeases.add(lease);
+        startHeartbeat();
+        return Optional.of(lease);
+    }
+
+    /**
+     * Check that no other node has taken the lease over, e.g. while this node was paused
+     * @param lease Lease acquired by this node
+     * @return Whether the lease is still the newest generation for its key
+     */
+    public boolean isOwned(Lease lease) {
+        return !Files.exists(leasePath(keyDirectory(lease.key()), lease.key(), lease.generation() + 1));
+    }
+
+    /**
+     * Mark the leased file as finished and give up the lease.
+     * Nothing is marked when the lease was taken over, since the new owner finishes the file.
+     * @param lease Lease held by this node
+     * @return Whether the file was marked as finished
+     */
+    public boolean complete(Lease lease) throws IOException {
+        if (!isOwned(lease)) {
+            heldLeases.remove(lease);
+            logger.warn("Lease {} was taken over by another node, not marking it done", lease.key());
+            return false;
+        }
+        Path done = keyDirectory(lease.key()).resolve(lease.key() + DONE_SUFFIX);
+        Files.writeString(done, getNodeId(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        release(lease);
+        return true;
+    }
+
+    /**
+     * Give up a lease without finishing the file, so any node may claim it right away
+     * @param lease Lease held by this node
+     */
+    public void release(Lease lease) {
+        synchronized (renewLock) {
+            heldLeases.remove(lease);
+            try {
+                Files.setLastModifiedTime(lease.path(), FileTime.from(Instant.EPOCH));
+            } catch (IOException e) {
+                logger.warn("Failed to release lease {}, it will expire after {}", lease.key(), leaseTtl, e);
+            }
+        }
+    }
+
+    /**
+     * Renew every lease this node holds. Leases taken over by another node are dropped.
+     */
+    void renewHeldLeases() {
+        FileTime now = FileTime.from(Instant.now());
+        for (Lease lease : heldLeases) {
+            synchronized (renewLock) {
+                if (!heldLeases.contains(lease)) {
+                    continue;
+                }
+                try {
+                    if (!isOwned(lease)) {
+                        logger.warn("Lease {} was taken over by another node", lease.key());
+                        heldLeases.remove(lease);
+                    } else {
+                        Files.setLastModifiedTime(lease.path(), now);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to renew lease {}", lease.key(), e);
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(Path lease) throws IOException {
+        Instant renewed = Files.getLastModifiedTime(lease).toInstant();
+        return renewed.plus(leaseTtl).isBefore(Instant.now());
+    }
+
+    private Path keyDirectory(String key) {
+        // Shard by key prefix to keep directory listings small on large corpora
+        return Paths.get(clusterDirectory, "leases", key.substring(0, 2));
+    }
+
+    private static Path leasePath(Path directory, String key, int generation) {
+        return directory.resolve(key + "." + generation);
+    }
+
+    private synchronized void startHeartbeat() {
+        if (heartbeat == null) {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "lease-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long periodMillis = Math.max(1, leaseTtl.toMillis() / 3);
+            heartbeat.scheduleAtFixedRate(this::renewHeldLeases, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            try {
+                if (!heartbeat.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Lease heartbeat did not stop within {}s", SHUTDOWN_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        heldLeases.forEach(this::release);
+    }
+
+    /**
+     * A claimed file: its key, the lease generation this node created, and the lease file
+     */
+    public record Lease(String key, int generation, Path path) {
+    }
+}
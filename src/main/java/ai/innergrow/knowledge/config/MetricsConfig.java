@@ -0,0 +1,38 @@
+package ai.innergrow.knowledge.config;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for ingestion metrics, dumped periodically to the log
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Value("${knowledge.metrics.dump-interval:PT1M}")
+    private Duration dumpInterval;
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        // The registry publishes once more when the context closes, so short runs still get a dump
+        LoggingRegistryConfig config = new LoggingRegistryConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration step() {
+                return dumpInterval;
+            }
+        };
+        return new LoggingMeterRegistry(config, Clock.SYSTEM);
+    }
+}
@@ -0,0 +1,241 @@
+package ai.innergrow.knowledge.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters and JFR events for the PDF ingestion pipeline
+ */
+@Component
+public class IngestionMetrics {
+
+    /**
+     * Pipeline stages that are timed per file
+     */
+    public enum Stage {
+        PROCESS_SPAWN("process_spawn"),
+        SCRIPT_RUN("script_run"),
+        RENDER("render"),
+        OCR_PAGE("ocr_page"),
+        JSON_DECODE("json_decode"),
+        SERIALIZATION("serialization"),
+        DISK_WRITE("disk_write");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Hand-off points whose backlog is exposed as a gauge
+     */
+    public enum Queue {
+        PARSE("parse"),
+        SAVE("save");
+
+        private final String tag;
+
+        Queue(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Queue, AtomicInteger> queueDepths = new EnumMap<>(Queue.class);
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong workerBusyNanos = new AtomicLong();
+    private final Counter parsedSuccess;
+    private final Counter parsedFailure;
+    private final Counter decodeFallback;
+    private final Counter pagesProcessed;
+    private final Counter documentsSaved;
+    private final Counter bytesWritten;
+
+    public IngestionMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("knowledge.ingest.stage")
+                    .description("Time spent in one ingestion stage")
+                    .tag("stage", stage.tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+        }
+        for (Queue queue : Queue.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            queueDepths.put(queue, depth);
+            Gauge.builder("knowledge.ingest.queue.depth", depth, AtomicInteger::get)
+                    .description("Items waiting for the stage")
+                    .tag("queue", queue.tag)
+                    .register(registry);
+        }
+        Gauge.builder("knowledge.ingest.workers.active", activeWorkers, AtomicInteger::get)
+                .description("Parser workers currently running a script")
+                .register(registry);
+        // The rate of this counter is the average number of busy workers, i.e. utilization
+        FunctionCounter.builder("knowledge.ingest.workers.busy", workerBusyNanos, nanos -> nanos.get() / 1e9)
+                .description("Cumulative seconds parser workers spent busy")
+                .baseUnit("seconds")
+                .register(registry);
+
+        parsedSuccess = Counter.builder("knowledge.ingest.documents").tag("outcome", "success").register(registry);
+        parsedFailure = Counter.builder("knowledge.ingest.documents").tag("outcome", "failure").register(registry);
+        decodeFallback = Counter.builder("knowledge.ingest.decode.fallback")
+                .description("Script outputs stored as raw text because they were not valid JSON")
+                .register(registry);
+        pagesProcessed = Counter.builder("knowledge.ingest.pages").register(registry);
+        documentsSaved = Counter.builder("knowledge.storage.documents").register(registry);
+        bytesWritten = Counter.builder("knowledge.storage.bytes").baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * Start timing a stage for a file; call {@link StageTimer#stop()} when it ends, or
+     * {@link StageTimer#end()} and later {@link StageTimer#commit()} when the page count is only known afterwards
+     * @param stage Pipeline stage
+     * @param filePath PDF file the stage works on
+     * @return Running timer
+     */
+    public StageTimer start(Stage stage, String filePath) {
+        return new StageTimer(stageTimers.get(stage), stage.tag, filePath);
+    }
+
+    /**
+     * Record the render and per-page OCR timings reported by the Python script in metadata.timings
+     * @param filePath PDF file
+     * @param metadata Metadata map from the script output, may be null
+     */
+    public void recordScriptTimings(String filePath, Map<String, Object> metadata) {
+        if (metadata == null || !(metadata.get("timings") instanceof Map<?, ?> timings)) {
+            return;
+        }
+        int pages = pageCount(metadata);
+        if (timings.get("render_seconds") instanceof Number render) {
+            recordReported(Stage.RENDER, filePath, pages, render.doubleValue());
+        }
+        if (timings.get("ocr_seconds") instanceof List<?> perPage) {
+            for (Object seconds : perPage) {
+                if (seconds instanceof Number ocr) {
+                    recordReported(Stage.OCR_PAGE, filePath, 1, ocr.doubleValue());
+                }
+            }
+        }
+    }
+
+    private void recordReported(Stage stage, String filePath, int pages, double seconds) {
+        long nanos = (long) (seconds * 1e9);
+        stageTimers.get(stage).record(Duration.ofNanos(nanos));
+
+        IngestionStageEvent event = new IngestionStageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.tag;
+            event.filePath = filePath;
+            event.pageCount = pages;
+            event.reportedDuration = nanos;
+            event.commit();
+        }
+    }
+
+    public void workerStarted() {
+        activeWorkers.incrementAndGet();
+    }
+
+    public void workerFinished(long busyNanos) {
+        activeWorkers.decrementAndGet();
+        workerBusyNanos.addAndGet(busyNanos);
+    }
+
+    public void setQueueDepth(Queue queue, int depth) {
+        queueDepths.get(queue).set(depth);
+    }
+
+    public void dequeued(Queue queue) {
+        queueDepths.get(queue).decrementAndGet();
+    }
+
+    public void documentParsed(boolean success, int pages) {
+        (success ? parsedSuccess : parsedFailure).increment();
+        pagesProcessed.increment(pages);
+    }
+
+    public void decodeFellBack() {
+        decodeFallback.increment();
+    }
+
+    public void documentSaved(long bytes) {
+        documentsSaved.increment();
+        bytesWritten.increment(bytes);
+    }
+
+    /**
+     * @param metadata Metadata map from the script output, may be null
+     * @return Value of metadata.pages, or 0 when absent
+     */
+    public static int pageCount(Map<String, Object> metadata) {
+        if (metadata != null && metadata.get("pages") instanceof Number pages) {
+            return pages.intValue();
+        }
+        return 0;
+    }
+
+    /**
+     * A running stage measurement that feeds both the Micrometer timer and a JFR event
+     */
+    public static final class StageTimer {
+
+        private final Timer timer;
+        private final IngestionStageEvent event = new IngestionStageEvent();
+        private final long startNanos = System.nanoTime();
+        private boolean ended;
+
+        private StageTimer(Timer timer, String stage, String filePath) {
+            this.timer = timer;
+            if (event.isEnabled()) {
+                event.stage = stage;
+                event.filePath = filePath;
+                event.begin();
+            }
+        }
+
+        public StageTimer pageCount(int pages) {
+            event.pageCount = pages;
+            return this;
+        }
+
+        /**
+         * End the measurement and record it in the timer; the JFR event is held until {@link #commit()}
+         */
+        public void end() {
+            if (!ended) {
+                ended = true;
+                timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                event.end();
+            }
+        }
+
+        /**
+         * Emit the JFR event, ending the measurement first if that has not happened yet
+         */
+        public void commit() {
+            end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+
+        public void stop() {
+            commit();
+        }
+    }
+}
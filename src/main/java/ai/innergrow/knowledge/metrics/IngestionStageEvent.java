@@ -0,0 +1,35 @@
+package ai.innergrow.knowledge.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every ingestion stage of a PDF file.
+ * Stages timed inside the JVM carry the event duration; stages timed by the
+ * Python script (rendering, OCR) are reported after the fact in reportedDuration.
+ */
+@Name("ai.innergrow.knowledge.IngestionStage")
+@Label("Ingestion Stage")
+@Category({"Knowledge", "Ingestion"})
+@Description("One stage of PDF knowledge ingestion")
+@StackTrace(false)
+class IngestionStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("File Path")
+    String filePath;
+
+    @Label("Page Count")
+    int pageCount;
+
+    @Label("Reported Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long reportedDuration;
+}
@@ -1,5 +1,7 @@
 package ai.innergrow.knowledge.service;
 
+import ai.innergrow.knowledge.cluster.DocumentIdAllocator;
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
 import ai.innergrow.knowledge.model.KnowledgeDocument;
 import ai.innergrow.knowledge.model.PdfParseResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,7 +19,7 @@ import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Service to save parsed PDF knowledge to file system
@@ -27,14 +29,17 @@ public class KnowledgeStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(KnowledgeStorageService.class);
     private final ObjectMapper objectMapper;
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final IngestionMetrics metrics;
+    private final DocumentIdAllocator idAllocator;
 
     @Value("${knowledge.storage.directory:data/knowledge}")
     private String storageDirectory;
 
-    public KnowledgeStorageService() {
+    public KnowledgeStorageService(IngestionMetrics metrics, DocumentIdAllocator idAllocator) {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.metrics = metrics;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -58,44 +63,79 @@ public class KnowledgeStorageService {
      * @return Saved knowledge document
      */
     public KnowledgeDocument saveKnowledge(PdfParseResult parseResult) {
-        initializeStorage();
-        
+        KnowledgeDocument document = createDocument(parseResult);
+        try {
+            writeDocument(document, parseResult);
+        } catch (IOException e) {
+            logger.error("Failed to save knowledge document for: {}", parseResult.getFileName(), e);
+        }
+        return document;
+    }
+
+    /**
+     * Save a single parse result to file system, reporting write failures to the caller
+     * @param parseResult The PDF parse result
+     * @return Saved knowledge document
+     * @throws IOException If the document could not be written
+     */
+    public KnowledgeDocument saveKnowledgeOrThrow(PdfParseResult parseResult) throws IOException {
+        KnowledgeDocument document = createDocument(parseResult);
+        writeDocument(document, parseResult);
+        return document;
+    }
+
+    private KnowledgeDocument createDocument(PdfParseResult parseResult) {
         KnowledgeDocument document = new KnowledgeDocument();
-        document.setId(idGenerator.getAndIncrement());
+        document.setId(idAllocator.nextId());
         document.setFileName(parseResult.getFileName());
         document.setFilePath(parseResult.getFilePath());
         document.setContent(parseResult.getContent());
         document.setProcessingSuccess(parseResult.isSuccess());
         document.setErrorMessage(parseResult.getErrorMessage());
         document.setExtractedAt(LocalDateTime.now());
+        return document;
+    }
+
+    private void writeDocument(KnowledgeDocument document, PdfParseResult parseResult) throws IOException {
+        initializeStorage();
+        int pages = IngestionMetrics.pageCount(parseResult.getMetadata());
         
         // Convert metadata map to JSON string if exists
-        if (parseResult.getMetadata() != null) {
-            try {
-                String metadataJson = objectMapper.writeValueAsString(parseResult.getMetadata());
-                document.setMetadata(metadataJson);
-            } catch (Exception e) {
-                logger.warn("Failed to serialize metadata for file: {}", parseResult.getFileName(), e);
+        IngestionMetrics.StageTimer serializationTimer = metrics.start(IngestionMetrics.Stage.SERIALIZATION, parseResult.getFilePath())
+            .pageCount(pages);
+        byte[] jsonContent;
+        try {
+            if (parseResult.getMetadata() != null) {
+                try {
+                    String metadataJson = objectMapper.writeValueAsString(parseResult.getMetadata());
+                    document.setMetadata(metadataJson);
+                } catch (Exception e) {
+                    logger.warn("Failed to serialize metadata for file: {}", parseResult.getFileName(), e);
+                }
             }
+
+            jsonContent = objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(document);
+        } finally {
+            serializationTimer.stop();
         }
 
         // Save to JSON file
+        String fileName = String.format("knowledge_%d_%s.json", 
+            document.getId(), 
+            parseResult.getFileName().replaceAll("[^a-zA-Z0-9.-]", "_"));
+        Path filePath = Paths.get(storageDirectory, fileName);
+
+        IngestionMetrics.StageTimer writeTimer = metrics.start(IngestionMetrics.Stage.DISK_WRITE, parseResult.getFilePath())
+            .pageCount(pages);
         try {
-            String fileName = String.format("knowledge_%d_%s.json", 
-                document.getId(), 
-                parseResult.getFileName().replaceAll("[^a-zA-Z0-9.-]", "_"));
-            Path filePath = Paths.get(storageDirectory, fileName);
-            
-            String jsonContent = objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValueAsString(document);
-            Files.writeString(filePath, jsonContent, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            
-            logger.info("Saved knowledge document to file: {}", filePath);
-        } catch (IOException e) {
-            logger.error("Failed to save knowledge document for: {}", parseResult.getFileName(), e);
+            Files.write(filePath, jsonContent, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } finally {
+            writeTimer.stop();
         }
-
-        return document;
+        metrics.documentSaved(jsonContent.length);
+        
+        logger.debug("Saved knowledge document to file: {}", filePath);
     }
 
     /**
@@ -105,6 +145,7 @@ public class KnowledgeStorageService {
      */
     public int saveKnowledgeBatch(List<PdfParseResult> parseResults) {
         int savedCount = 0;
+        metrics.setQueueDepth(IngestionMetrics.Queue.SAVE, parseResults.size());
         
         for (PdfParseResult result : parseResults) {
             try {
@@ -113,6 +154,7 @@ public class KnowledgeStorageService {
             } catch (Exception e) {
                 logger.error("Failed to save knowledge for file: {}", result.getFileName(), e);
             }
+            metrics.dequeued(IngestionMetrics.Queue.SAVE);
         }
         
         logger.info("Saved {} out of {} documents to file system", savedCount, parseResults.size());
@@ -127,9 +169,9 @@ public class KnowledgeStorageService {
         List<KnowledgeDocument> documents = new ArrayList<>();
         initializeStorage();
         
-        try {
-            Path storagePath = Paths.get(storageDirectory);
-            Files.list(storagePath)
+        Path storagePath = Paths.get(storageDirectory);
+        try (Stream<Path> files = Files.list(storagePath)) {
+            files
                 .filter(path -> path.toString().endsWith(".json"))
                 .forEach(path -> {
                     try {
@@ -1,5 +1,6 @@
 package ai.innergrow.knowledge.service;
 
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
 import ai.innergrow.knowledge.model.PdfParseResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service to execute Python script for PDF parsing
@@ -26,6 +29,7 @@ public class PdfParserService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfParserService.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IngestionMetrics metrics;
 
     @Value("${knowledge.python.script.path}")
     private String pythonScriptPath;
@@ -33,6 +37,10 @@ public class PdfParserService {
     @Value("${knowledge.python.executable:python3}")
     private String pythonExecutable;
 
+    public PdfParserService(IngestionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Parse all PDF files in the given directory
      * @param pdfDirectory Directory containing PDF files
@@ -54,18 +62,16 @@ public class PdfParserService {
             }
 
             // Find all PDF files in directory
-            List<File> pdfFiles = Files.walk(dirPath)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().toLowerCase().endsWith(".pdf"))
-                    .map(Path::toFile)
-                    .collect(Collectors.toList());
+            List<File> pdfFiles = findPdfFiles(dirPath);
 
             logger.info("Found {} PDF files in directory: {}", pdfFiles.size(), pdfDirectory);
 
             // Parse each PDF file
+            metrics.setQueueDepth(IngestionMetrics.Queue.PARSE, pdfFiles.size());
             for (File pdfFile : pdfFiles) {
                 PdfParseResult result = parseSinglePdf(pdfFile.getAbsolutePath());
                 results.add(result);
+                metrics.dequeued(IngestionMetrics.Queue.PARSE);
             }
 
         } catch (Exception e) {
@@ -79,6 +85,21 @@ public class PdfParserService {
         return results;
     }
 
+    /**
+     * Find all PDF files below the given directory
+     * @param dirPath Directory to walk
+     * @return PDF files in walk order
+     */
+    public List<File> findPdfFiles(Path dirPath) throws IOException {
+        try (Stream<Path> paths = Files.walk(dirPath)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().toLowerCase().endsWith(".pdf"))
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+    }
+
     /**
      * Parse a single PDF file using Python script
      * @param pdfFilePath Path to the PDF file
@@ -89,6 +110,10 @@ public class PdfParserService {
         result.setFilePath(pdfFilePath);
         result.setFileName(Paths.get(pdfFilePath).getFileName().toString());
 
+        long workerStart = System.nanoTime();
+        metrics.workerStarted();
+        IngestionMetrics.StageTimer spawnTimer = null;
+        IngestionMetrics.StageTimer scriptTimer = null;
         try {
             // Build Python command
             ProcessBuilder processBuilder = new ProcessBuilder(
@@ -97,8 +122,14 @@ public class PdfParserService {
                     pdfFilePath
             );
 
-            processBuilder.redirectErrorStream(true);
+            spawnTimer = metrics.start(IngestionMetrics.Stage.PROCESS_SPAWN, pdfFilePath);
             Process process = processBuilder.start();
+            spawnTimer.end();
+            scriptTimer = metrics.start(IngestionMetrics.Stage.SCRIPT_RUN, pdfFilePath);
+
+            // Drain stderr separately so progress lines never end up in the JSON on stdout
+            StringBuilder errorOutput = new StringBuilder();
+            Thread errorReader = Thread.ofVirtual().start(() -> drainErrorStream(process, pdfFilePath, errorOutput));
 
             // Read output
             StringBuilder output = new StringBuilder();
@@ -111,35 +142,16 @@ public class PdfParserService {
             }
 
             int exitCode = process.waitFor();
+            errorReader.join();
+            scriptTimer.end();
             
             if (exitCode == 0) {
                 // Parse JSON output from Python script
-                String jsonOutput = output.toString().trim();
-                try {
-                    // Parse the JSON response from Python script
-                    @SuppressWarnings("unchecked")
-                    var jsonResult = objectMapper.readValue(jsonOutput, java.util.Map.class);
-                    
-                    result.setContent((String) jsonResult.get("content"));
-                    result.setSuccess((Boolean) jsonResult.getOrDefault("success", true));
-                    
-                    // Set metadata if present
-                    @SuppressWarnings("unchecked")
-                    var metadata = (java.util.Map<String, Object>) jsonResult.get("metadata");
-                    if (metadata != null) {
-                        result.setMetadata(metadata);
-                    }
-                    
-                    logger.info("Successfully parsed PDF: {}", pdfFilePath);
-                } catch (Exception e) {
-                    // Fallback: use raw output if JSON parsing fails
-                    result.setContent(jsonOutput);
-                    result.setSuccess(true);
-                    logger.warn("Could not parse JSON output, using raw content for: {}", pdfFilePath);
-                }
+                applyScriptOutput(result, output.toString().trim());
+                metrics.recordScriptTimings(pdfFilePath, result.getMetadata());
             } else {
                 result.setSuccess(false);
-                result.setErrorMessage("Python script failed with exit code: " + exitCode + "\n" + output);
+                result.setErrorMessage("Python script failed with exit code: " + exitCode + "\n" + output + errorOutput);
                 logger.error("Failed to parse PDF: {}, exit code: {}", pdfFilePath, exitCode);
             }
 
@@ -147,8 +159,70 @@ public class PdfParserService {
             result.setSuccess(false);
             result.setErrorMessage("Exception: " + e.getMessage());
             logger.error("Error executing Python script for PDF: {}", pdfFilePath, e);
+        } finally {
+            metrics.workerFinished(System.nanoTime() - workerStart);
         }
 
+        // The page count is only known once the output is decoded, so these events are committed last
+        int pages = IngestionMetrics.pageCount(result.getMetadata());
+        if (spawnTimer != null) {
+            spawnTimer.pageCount(pages).commit();
+        }
+        if (scriptTimer != null) {
+            scriptTimer.pageCount(pages).commit();
+        }
+        metrics.documentParsed(result.isSuccess(), pages);
         return result;
     }
+
+    /**
+     * Forward the script's stderr to the debug log and keep it for the error message of a failed run
+     */
+    private void drainErrorStream(Process process, String pdfFilePath, StringBuilder errorOutput) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.debug("Python script [{}]: {}", pdfFilePath, line);
+                errorOutput.append(line).append("\n");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read Python script stderr for PDF: {}", pdfFilePath, e);
+        }
+    }
+
+    /**
+     * Decode the JSON printed by the Python script into the given result
+     * @param result Parse result to populate
+     * @param jsonOutput Trimmed stdout of the Python script
+     */
+    void applyScriptOutput(PdfParseResult result, String jsonOutput) {
+        IngestionMetrics.StageTimer decodeTimer = metrics.start(IngestionMetrics.Stage.JSON_DECODE, result.getFilePath());
+        try {
+            // Parse the JSON response from Python script
+            @SuppressWarnings("unchecked")
+            var jsonResult = objectMapper.readValue(jsonOutput, java.util.Map.class);
+
+            result.setContent((String) jsonResult.get("content"));
+            result.setSuccess((Boolean) jsonResult.getOrDefault("success", true));
+
+            // Set metadata if present
+            @SuppressWarnings("unchecked")
+            var metadata = (java.util.Map<String, Object>) jsonResult.get("metadata");
+            if (metadata != null) {
+                result.setMetadata(metadata);
+            }
+
+            decodeTimer.pageCount(IngestionMetrics.pageCount(metadata));
+            logger.debug("Successfully parsed PDF: {}", result.getFilePath());
+        } catch (Exception e) {
+            // Fallback: use raw output if JSON parsing fails
+            result.setContent(jsonOutput);
+            result.setSuccess(true);
+            metrics.decodeFellBack();
+            logger.warn("Could not parse JSON output, using raw content for: {}", result.getFilePath());
+        } finally {
+            decodeTimer.stop();
+        }
+    }
 }
@@ -0,0 +1,232 @@
+package ai.innergrow.knowledge.agent;
+
+import ai.innergrow.knowledge.cluster.DocumentIdAllocator;
+import ai.innergrow.knowledge.cluster.FileLeaseManager;
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
+import ai.innergrow.knowledge.model.PdfParseResult;
+import ai.innergrow.knowledge.service.KnowledgeStorageService;
+import ai.innergrow.knowledge.service.PdfParserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several nodes against one shared directory, each with its own lease manager and a stub parser.
+ */
+class PdfProcessingToolClusterTests {
+
+    private static final Duration LEASE_TTL = Duration.ofSeconds(2);
+    private static final Pattern STORED_ID = Pattern.compile("^knowledge_(\\d+)_");
+
+    @TempDir
+    Path sharedDirectory;
+
+    private Path pdfDirectory;
+    private Path clusterDirectory;
+    private Path storageDirectory;
+    private final Map<String, AtomicInteger> parseCounts = new ConcurrentHashMap<>();
+    private final List<FileLeaseManager> leaseManagers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdfDirectory = Files.createDirectories(sharedDirectory.resolve("pdfs"));
+        clusterDirectory = sharedDirectory.resolve("cluster");
+        storageDirectory = sharedDirectory.resolve("knowledge");
+    }
+
+    @AfterEach
+    void shutdown() {
+        leaseManagers.forEach(FileLeaseManager::shutdown);
+    }
+
+    @Test
+    void eachFileIsProcessedExactlyOnceAcrossNodes() throws Exception {
+        List<Path> pdfs = createPdfs(20);
+        PdfProcessingTool nodeA = node(leaseManager("a", LEASE_TTL));
+        PdfProcessingTool nodeB = node(leaseManager("b", LEASE_TTL));
+
+        CompletableFuture<PdfProcessingTool.Response> runA = CompletableFuture.supplyAsync(() -> run(nodeA));
+        CompletableFuture<PdfProcessingTool.Response> runB = CompletableFuture.supplyAsync(() -> run(nodeB));
+        PdfProcessingTool.Response responseA = runA.get();
+        PdfProcessingTool.Response responseB = runB.get();
+
+        assertThat(responseA.success()).isTrue();
+        assertThat(responseB.success()).isTrue();
+        assertThat(responseA.totalSaved() + responseB.totalSaved()).isEqualTo(pdfs.size());
+        assertEveryFileParsedOnceAndDone(pdfs);
+
+        List<Long> ids = storedIds();
+        assertThat(ids).hasSize(pdfs.size()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void filesOfDeadNodeAreFinishedByAnotherNode() throws Exception {
+        List<Path> pdfs = createPdfs(3);
+        // The dead node claimed a file and stopped; its heartbeat period is far beyond the test
+        FileLeaseManager deadNode = leaseManager("dead", Duration.ofHours(1));
+        FileLeaseManager survivor = leaseManager("survivor", LEASE_TTL);
+        deadNode.tryAcquire(survivor.keyFor(pdfDirectory, pdfs.get(0))).orElseThrow();
+
+        PdfProcessingTool.Response response = run(node(survivor));
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.totalSaved()).isEqualTo(pdfs.size());
+        assertEveryFileParsedOnceAndDone(pdfs);
+    }
+
+    @Test
+    void laterBatchReusingFileNamesIsNotSkipped() throws Exception {
+        createPdfs(3);
+        Path nextBatch = Files.createDirectories(sharedDirectory.resolve("next-batch"));
+        for (int i = 0; i < 3; i++) {
+            Files.writeString(nextBatch.resolve("doc-" + i + ".pdf"), "%PDF-1.4");
+        }
+        PdfProcessingTool node = node(leaseManager("a", LEASE_TTL));
+
+        assertThat(run(node).totalSaved()).isEqualTo(3);
+        assertThat(node.apply(new PdfProcessingTool.Request(nextBatch.toString())).totalSaved()).isEqualTo(3);
+        // The first batch itself is finished and stays skipped
+        assertThat(run(node).totalProcessed()).isZero();
+    }
+
+    @Test
+    void failedSaveReleasesLeaseInsteadOfCompleting() throws Exception {
+        List<Path> pdfs = createPdfs(3);
+        Files.writeString(storageDirectory, "not a directory");
+        FileLeaseManager leaseManager = leaseManager("a", LEASE_TTL);
+
+        PdfProcessingTool.Response response = run(node(leaseManager));
+
+        assertThat(response.totalProcessed()).isEqualTo(pdfs.size());
+        assertThat(response.totalSaved()).isZero();
+        FileLeaseManager otherNode = leaseManager("b", LEASE_TTL);
+        for (Path pdf : pdfs) {
+            String key = leaseManager.keyFor(pdfDirectory, pdf);
+            assertThat(leaseManager.isDone(key)).isFalse();
+            assertThat(otherNode.tryAcquire(key)).isPresent();
+        }
+    }
+
+    @Test
+    void interruptWhileWaitingForLeaseFailsAndKeepsInterruptFlag() throws Exception {
+        List<Path> pdfs = createPdfs(1);
+        FileLeaseManager otherNode = leaseManager("other", Duration.ofHours(1));
+        otherNode.tryAcquire(otherNode.keyFor(pdfDirectory, pdfs.get(0))).orElseThrow();
+        PdfProcessingTool node = node(leaseManager("a", LEASE_TTL));
+
+        CompletableFuture<Boolean> interruptFlag = new CompletableFuture<>();
+        CompletableFuture<PdfProcessingTool.Response> response = new CompletableFuture<>();
+        Thread worker = new Thread(() -> {
+            response.complete(run(node));
+            interruptFlag.complete(Thread.currentThread().isInterrupted());
+        });
+        worker.start();
+        Thread.sleep(200);
+        worker.interrupt();
+        worker.join(5000);
+
+        assertThat(response.get().success()).isFalse();
+        assertThat(interruptFlag.get()).isTrue();
+    }
+
+    private PdfProcessingTool.Response run(PdfProcessingTool node) {
+        return node.apply(new PdfProcessingTool.Request(pdfDirectory.toString()));
+    }
+
+    private void assertEveryFileParsedOnceAndDone(List<Path> pdfs) {
+        FileLeaseManager observer = leaseManager("observer", LEASE_TTL);
+        for (Path pdf : pdfs) {
+            assertThat(parseCounts.get(pdf.toAbsolutePath().toString())).as(pdf.toString()).hasValue(1);
+            assertThat(observer.isDone(observer.keyFor(pdfDirectory, pdf))).as(pdf.toString()).isTrue();
+        }
+    }
+
+    private List<Path> createPdfs(int count) throws IOException {
+        List<Path> pdfs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pdfs.add(Files.writeString(pdfDirectory.resolve("doc-" + i + ".pdf"), "%PDF-1.4"));
+        }
+        return pdfs;
+    }
+
+    private List<Long> storedIds() throws IOException {
+        try (Stream<Path> files = Files.list(storageDirectory)) {
+            return files
+                    .map(file -> STORED_ID.matcher(file.getFileName().toString()))
+                    .filter(Matcher::find)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .toList();
+        }
+    }
+
+    private PdfProcessingTool node(FileLeaseManager leaseManager) {
+        IngestionMetrics metrics = new IngestionMetrics(new SimpleMeterRegistry());
+
+        DocumentIdAllocator idAllocator = new DocumentIdAllocator();
+        ReflectionTestUtils.setField(idAllocator, "clustered", true);
+        ReflectionTestUtils.setField(idAllocator, "clusterDirectory", clusterDirectory.toString());
+        ReflectionTestUtils.setField(idAllocator, "blockSize", 5L);
+
+        KnowledgeStorageService storageService = new KnowledgeStorageService(metrics, idAllocator);
+        ReflectionTestUtils.setField(storageService, "storageDirectory", storageDirectory.toString());
+
+        return new PdfProcessingTool(new CountingParser(metrics), storageService, leaseManager);
+    }
+
+    private FileLeaseManager leaseManager(String nodeId, Duration leaseTtl) {
+        FileLeaseManager manager = new FileLeaseManager();
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "clusterDirectory", clusterDirectory.toString());
+        ReflectionTestUtils.setField(manager, "nodeId", nodeId);
+        ReflectionTestUtils.setField(manager, "leaseTtl", leaseTtl);
+        leaseManagers.add(manager);
+        return manager;
+    }
+
+    /**
+     * Stands in for the Python script: counts parses per file and takes a little time so nodes overlap
+     */
+    private class CountingParser extends PdfParserService {
+
+        CountingParser(IngestionMetrics metrics) {
+            super(metrics);
+        }
+
+        @Override
+        public PdfParseResult parseSinglePdf(String pdfFilePath) {
+            parseCounts.computeIfAbsent(pdfFilePath, path -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            PdfParseResult result = new PdfParseResult();
+            result.setFileName(Path.of(pdfFilePath).getFileName().toString());
+            result.setFilePath(pdfFilePath);
+            result.setContent("content of " + pdfFilePath);
+            result.setMetadata(Map.of("pages", 1));
+            result.setSuccess(true);
+            return result;
+        }
+    }
+}
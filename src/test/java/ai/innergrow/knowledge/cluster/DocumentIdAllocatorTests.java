@@ -0,0 +1,54 @@
+package ai.innergrow.knowledge.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentIdAllocatorTests {
+
+    @TempDir
+    Path clusterDirectory;
+
+    @Test
+    void localIdsAreSequentialFromOne() {
+        DocumentIdAllocator allocator = new DocumentIdAllocator();
+
+        assertThat(allocator.nextId()).isEqualTo(1);
+        assertThat(allocator.nextId()).isEqualTo(2);
+    }
+
+    @Test
+    void clusteredIdsAreUniqueAcrossNodes() {
+        DocumentIdAllocator allocatorA = idAllocator();
+        DocumentIdAllocator allocatorB = idAllocator();
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            assertThat(ids.add(allocatorA.nextId())).isTrue();
+            assertThat(ids.add(allocatorB.nextId())).isTrue();
+        }
+    }
+
+    @Test
+    void restartedNodeContinuesAfterClaimedBlocks() {
+        DocumentIdAllocator before = idAllocator();
+        long lastBeforeRestart = before.nextId();
+
+        DocumentIdAllocator after = idAllocator();
+        assertThat(after.nextId()).isGreaterThan(lastBeforeRestart);
+    }
+
+    private DocumentIdAllocator idAllocator() {
+        DocumentIdAllocator allocator = new DocumentIdAllocator();
+        ReflectionTestUtils.setField(allocator, "clustered", true);
+        ReflectionTestUtils.setField(allocator, "clusterDirectory", clusterDirectory.toString());
+        ReflectionTestUtils.setField(allocator, "blockSize", 7L);
+        return allocator;
+    }
+}
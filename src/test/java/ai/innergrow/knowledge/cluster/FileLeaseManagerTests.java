@@ -0,0 +1,165 @@
+package ai.innergrow.knowledge.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileLeaseManagerTests {
+
+    @TempDir
+    Path clusterDirectory;
+
+    private FileLeaseManager nodeA;
+    private FileLeaseManager nodeB;
+
+    @AfterEach
+    void shutdown() {
+        if (nodeA != null) {
+            nodeA.shutdown();
+        }
+        if (nodeB != null) {
+            nodeB.shutdown();
+        }
+    }
+
+    @Test
+    void leaseIsExclusiveUntilCompleted() throws Exception {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+        String key = nodeA.keyFor(Path.of("/share/pdfs"), Path.of("/share/pdfs/report.pdf"));
+
+        Optional<FileLeaseManager.Lease> lease = nodeA.tryAcquire(key);
+        assertThat(lease).isPresent();
+        assertThat(nodeB.tryAcquire(key)).isEmpty();
+
+        nodeA.complete(lease.get());
+        assertThat(nodeB.isDone(key)).isTrue();
+    }
+
+    @Test
+    void keyIsIndependentOfMountPointBelowShareRoot() {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+        ReflectionTestUtils.setField(nodeA, "shareRoot", "/mnt/a");
+        ReflectionTestUtils.setField(nodeB, "shareRoot", "/nfs/b");
+
+        assertThat(nodeA.keyFor(Path.of("/mnt/a/batch"), Path.of("/mnt/a/batch/x/report.pdf")))
+                .isEqualTo(nodeB.keyFor(Path.of("/nfs/b/batch"), Path.of("/nfs/b/batch/x/report.pdf")));
+    }
+
+    @Test
+    void keyIsScopedToInputDirectory() {
+        nodeA = leaseManager("a");
+
+        assertThat(nodeA.keyFor(Path.of("/share/monday"), Path.of("/share/monday/scan_001.pdf")))
+                .isNotEqualTo(nodeA.keyFor(Path.of("/share/tuesday"), Path.of("/share/tuesday/scan_001.pdf")));
+    }
+
+    @Test
+    void keyIsScopedToJobId() {
+        nodeA = leaseManager("a");
+        Path directory = Path.of("/share/pdfs");
+        Path file = directory.resolve("scan_001.pdf");
+
+        ReflectionTestUtils.setField(nodeA, "jobId", "first");
+        String firstRun = nodeA.keyFor(directory, file);
+        ReflectionTestUtils.setField(nodeA, "jobId", "second");
+
+        assertThat(nodeA.keyFor(directory, file)).isNotEqualTo(firstRun);
+        assertThat(nodeA.keyFor(Path.of("/elsewhere"), Path.of("/elsewhere/scan_001.pdf")))
+                .isEqualTo(nodeA.keyFor(directory, file));
+    }
+
+    @Test
+    void releasedLeaseCanBeClaimedImmediately() throws Exception {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+
+        FileLeaseManager.Lease lease = nodeA.tryAcquire("ab12").orElseThrow();
+        nodeA.release(lease);
+
+        assertThat(nodeB.tryAcquire("ab12")).isPresent();
+        assertThat(nodeB.isDone("ab12")).isFalse();
+    }
+
+    @Test
+    void heartbeatDoesNotReviveReleasedLeases() throws Exception {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+        List<FileLeaseManager.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            leases.add(nodeA.tryAcquire(String.format("%04x", i)).orElseThrow());
+        }
+
+        // Renew continuously while the leases are released, as the heartbeat thread would
+        CompletableFuture<Void> renewing = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 50; i++) {
+                nodeA.renewHeldLeases();
+            }
+        });
+        leases.forEach(nodeA::release);
+        renewing.join();
+
+        for (FileLeaseManager.Lease lease : leases) {
+            assertThat(nodeB.tryAcquire(lease.key())).as(lease.key()).isPresent();
+        }
+    }
+
+    @Test
+    void expiredLeaseOfDeadNodeIsReclaimed() throws Exception {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+
+        FileLeaseManager.Lease stale = nodeA.tryAcquire("cd34").orElseThrow();
+        // Node A stops heartbeating: its lease was last renewed long before the TTL
+        FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Files.setLastModifiedTime(stale.path(), longAgo);
+
+        FileLeaseManager.Lease reclaimed = nodeB.tryAcquire("cd34").orElseThrow();
+        assertThat(reclaimed.generation()).isEqualTo(stale.generation() + 1);
+
+        // A late heartbeat from node A must not revive its lost lease
+        nodeA.renewHeldLeases();
+        assertThat(Files.getLastModifiedTime(stale.path())).isEqualTo(longAgo);
+    }
+
+    @Test
+    void takenOverLeaseCannotBeCompleted() throws Exception {
+        nodeA = leaseManager("a");
+        nodeB = leaseManager("b");
+
+        FileLeaseManager.Lease stale = nodeA.tryAcquire("ef56").orElseThrow();
+        Files.setLastModifiedTime(stale.path(), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        FileLeaseManager.Lease reclaimed = nodeB.tryAcquire("ef56").orElseThrow();
+
+        assertThat(nodeA.isOwned(stale)).isFalse();
+        assertThat(nodeA.complete(stale)).isFalse();
+        assertThat(nodeA.isDone("ef56")).isFalse();
+
+        assertThat(nodeB.isOwned(reclaimed)).isTrue();
+        assertThat(nodeB.complete(reclaimed)).isTrue();
+        assertThat(nodeA.isDone("ef56")).isTrue();
+    }
+
+    private FileLeaseManager leaseManager(String nodeId) {
+        FileLeaseManager manager = new FileLeaseManager();
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "clusterDirectory", clusterDirectory.toString());
+        ReflectionTestUtils.setField(manager, "nodeId", nodeId);
+        ReflectionTestUtils.setField(manager, "leaseTtl", Duration.ofHours(1));
+        return manager;
+    }
+}
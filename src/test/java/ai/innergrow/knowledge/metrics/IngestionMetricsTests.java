@@ -0,0 +1,102 @@
+package ai.innergrow.knowledge.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IngestionMetricsTests {
+
+    private SimpleMeterRegistry registry;
+    private IngestionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new IngestionMetrics(registry);
+    }
+
+    @Test
+    void recordsRenderAndPerPageOcrTimings() {
+        Map<String, Object> metadata = Map.of(
+                "pages", 3,
+                "timings", Map.of(
+                        "render_seconds", 1.5,
+                        "ocr_seconds", List.of(0.25, 0.5, 1)));
+
+        metrics.recordScriptTimings("/data/scan.pdf", metadata);
+
+        assertThat(stage("render").count()).isEqualTo(1);
+        assertThat(stage("render").totalTime(TimeUnit.MILLISECONDS)).isCloseTo(1500, within(0.001));
+        assertThat(stage("ocr_page").count()).isEqualTo(3);
+        assertThat(stage("ocr_page").totalTime(TimeUnit.MILLISECONDS)).isCloseTo(1750, within(0.001));
+    }
+
+    @Test
+    void ignoresMissingOrMalformedTimings() {
+        metrics.recordScriptTimings("/data/a.pdf", null);
+        metrics.recordScriptTimings("/data/b.pdf", Map.of("pages", 2));
+        metrics.recordScriptTimings("/data/c.pdf", Map.of("timings", "fast"));
+        metrics.recordScriptTimings("/data/d.pdf", Map.of("timings", Map.of(
+                "render_seconds", "1.5",
+                "ocr_seconds", 0.5)));
+
+        Map<String, Object> partial = new HashMap<>();
+        partial.put("render_seconds", null);
+        partial.put("ocr_seconds", Arrays.asList(0.5, "slow", null));
+        metrics.recordScriptTimings("/data/e.pdf", Map.of("timings", partial));
+
+        assertThat(stage("render").count()).isZero();
+        assertThat(stage("ocr_page").count()).isEqualTo(1);
+    }
+
+    @Test
+    void pageCountAcceptsAnyJsonNumber() {
+        assertThat(IngestionMetrics.pageCount(Map.of("pages", 12))).isEqualTo(12);
+        assertThat(IngestionMetrics.pageCount(Map.of("pages", 12L))).isEqualTo(12);
+        assertThat(IngestionMetrics.pageCount(Map.of("pages", 12.0))).isEqualTo(12);
+    }
+
+    @Test
+    void pageCountIsZeroWhenAbsentOrNotANumber() {
+        Map<String, Object> nullPages = new HashMap<>();
+        nullPages.put("pages", null);
+
+        assertThat(IngestionMetrics.pageCount(null)).isZero();
+        assertThat(IngestionMetrics.pageCount(Map.of())).isZero();
+        assertThat(IngestionMetrics.pageCount(nullPages)).isZero();
+        assertThat(IngestionMetrics.pageCount(Map.of("pages", "12"))).isZero();
+    }
+
+    @Test
+    void stageTimerRecordsIntoItsStage() {
+        metrics.start(IngestionMetrics.Stage.DISK_WRITE, "/data/scan.pdf").pageCount(4).stop();
+
+        assertThat(stage("disk_write").count()).isEqualTo(1);
+        assertThat(stage("serialization").count()).isZero();
+    }
+
+    @Test
+    void endedTimerIsRecordedOnceWhenCommittedLater() {
+        IngestionMetrics.StageTimer timer = metrics.start(IngestionMetrics.Stage.SCRIPT_RUN, "/data/scan.pdf");
+        timer.end();
+        assertThat(stage("script_run").count()).isEqualTo(1);
+
+        timer.pageCount(4).commit();
+        timer.stop();
+        assertThat(stage("script_run").count()).isEqualTo(1);
+    }
+
+    private Timer stage(String stage) {
+        return registry.get("knowledge.ingest.stage").tag("stage", stage).timer();
+    }
+}
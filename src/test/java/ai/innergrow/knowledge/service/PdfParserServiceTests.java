@@ -0,0 +1,118 @@
+package ai.innergrow.knowledge.service;
+
+import ai.innergrow.knowledge.metrics.IngestionMetrics;
+import ai.innergrow.knowledge.model.PdfParseResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfParserServiceTests {
+
+    // Mimics parse_pdf.py: progress on stderr before, between and after the JSON on stdout
+    private static final String SCRIPT = """
+            echo "Converting PDF to images: $1" >&2
+            i=0
+            while [ $i -lt 2000 ]; do echo "Processing page $i/2000" >&2; i=$((i+1)); done
+            echo '{'
+            echo '  "file_name": "scan.pdf",'
+            echo "Processing page 2/2" >&2
+            echo '  "content": "page one page two",'
+            echo '  "metadata": {'
+            echo '    "pages": 2,'
+            echo '    "timings": {"render_seconds": 0.25, "ocr_seconds": [0.5, 0.75]}'
+            echo '  },'
+            echo '  "success": true,'
+            echo '  "error": null'
+            echo '}'
+            echo "Done" >&2
+            exit $EXIT_CODE
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+    private PdfParserService parserService;
+    private Path pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new SimpleMeterRegistry();
+        parserService = new PdfParserService(new IngestionMetrics(registry));
+        pdf = Files.writeString(tempDir.resolve("scan.pdf"), "%PDF-1.4");
+    }
+
+    @Test
+    void stderrProgressDoesNotBreakJsonDecode() throws IOException {
+        useScript("EXIT_CODE=0");
+
+        PdfParseResult result = parserService.parseSinglePdf(pdf.toString());
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getContent()).isEqualTo("page one page two");
+        assertThat(result.getMetadata()).containsEntry("pages", 2);
+        assertThat(registry.get("knowledge.ingest.decode.fallback").counter().count()).isZero();
+        assertThat(stageCount("render")).isEqualTo(1);
+        assertThat(stageCount("ocr_page")).isEqualTo(2);
+        assertThat(registry.get("knowledge.ingest.pages").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void scriptStageEventsCarryDecodedPageCount() throws IOException {
+        useScript("EXIT_CODE=0");
+        Path recordingFile = tempDir.resolve("stages.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("ai.innergrow.knowledge.IngestionStage");
+            recording.start();
+            parserService.parseSinglePdf(pdf.toString());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        Map<String, Integer> pagesByStage = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            pagesByStage.put(event.getString("stage"), event.getInt("pageCount"));
+        }
+        assertThat(pagesByStage)
+                .containsEntry("process_spawn", 2)
+                .containsEntry("script_run", 2)
+                .containsEntry("json_decode", 2);
+    }
+
+    @Test
+    void failedRunKeepsStderrInErrorMessage() throws IOException {
+        useScript("EXIT_CODE=1");
+
+        PdfParseResult result = parserService.parseSinglePdf(pdf.toString());
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getErrorMessage())
+                .startsWith("Python script failed with exit code: 1")
+                .contains("Converting PDF to images");
+        assertThat(stageCount("render")).isZero();
+    }
+
+    private void useScript(String prelude) throws IOException {
+        Path script = Files.writeString(tempDir.resolve("parse.sh"), prelude + "\n" + SCRIPT);
+        ReflectionTestUtils.setField(parserService, "pythonExecutable", "sh");
+        ReflectionTestUtils.setField(parserService, "pythonScriptPath", script.toString());
+    }
+
+    private long stageCount(String stage) {
+        return registry.get("knowledge.ingest.stage").tag("stage", stage).timer().count();
+    }
+}